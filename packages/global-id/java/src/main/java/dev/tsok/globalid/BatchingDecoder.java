@@ -0,0 +1,260 @@
+package dev.tsok.globalid;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decoder that coalesces concurrent decode requests into micro-batches per prefix/version,
+ * so a parser backed by a lookup store does one {@link IAsyncParser#parseAll} call per batch
+ * instead of one lookup per ID.
+ *
+ * Requests for the same value within a batch are resolved once and fanned out to every caller.
+ * A batch is dispatched when it holds {@code maxBatchSize} distinct values or when {@code linger}
+ * has passed since its first request, whichever comes first. Batches run on the given executor; on Java 21+
+ * pass {@code Executors.newVirtualThreadPerTaskExecutor()} so blocking lookups stay cheap.
+ */
+public class BatchingDecoder implements AutoCloseable {
+    private final Decoder decoder;
+    private final ParserRegistry parserRegistry;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final Executor executor;
+    private final ExecutorService ownedExecutor; // null when the executor was passed in
+    private final ScheduledThreadPoolExecutor scheduler;
+
+    // Batches still collecting requests, keyed by "prefix|version"
+    private final Map<String, Batch> pending = new HashMap<>();
+    private boolean closed;
+
+    public BatchingDecoder(ParserRegistry parserRegistry, TypeRegistry typeRegistry, ChecksumRegistry checksumRegistry,
+                           int maxBatchSize, Duration linger) {
+        this(parserRegistry, typeRegistry, checksumRegistry, maxBatchSize, linger, null);
+    }
+
+    public BatchingDecoder(ParserRegistry parserRegistry, TypeRegistry typeRegistry, ChecksumRegistry checksumRegistry,
+                           int maxBatchSize, Duration linger, Executor executor) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("Max batch size must be at least 1.");
+        }
+        if (linger == null || linger.isNegative()) {
+            throw new IllegalArgumentException("Linger must be zero or positive.");
+        }
+        this.decoder = new Decoder(parserRegistry, typeRegistry, checksumRegistry);
+        this.parserRegistry = parserRegistry;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = linger.toNanos();
+        if (executor == null) {
+            this.ownedExecutor = Executors.newCachedThreadPool(daemonThreads("global-id-batch"));
+            this.executor = ownedExecutor;
+        } else {
+            this.ownedExecutor = null;
+            this.executor = executor;
+        }
+        this.scheduler = new ScheduledThreadPoolExecutor(1, daemonThreads("global-id-linger"));
+        // Cancelled linger tasks would otherwise keep their batch reachable until the linger runs out
+        scheduler.setRemoveOnCancelPolicy(true);
+    }
+
+    public <T> CompletableFuture<GlobalId<T>> decodeAsync(String encodedId) {
+        try {
+            return decodeAsync(EncodedGlobalId.parse(encodedId));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    public <T> CompletableFuture<GlobalId<T>> decodeAsync(EncodedGlobalId encodedId) {
+        Decoder.RawGlobalId raw;
+        try {
+            // Checksum and CBOR are local work, only the parser goes through the batch
+            raw = decoder.decodeRaw(encodedId);
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        CompletableFuture<GlobalId<T>> result = new CompletableFuture<>();
+        Batch full = null;
+        synchronized (pending) {
+            if (closed) {
+                return CompletableFuture.failedFuture(new IllegalStateException("BatchingDecoder is closed."));
+            }
+            String key = raw.prefix + "|" + raw.version;
+            Batch batch = pending.get(key);
+            if (batch == null) {
+                batch = new Batch(raw.prefix, raw.type, raw.version);
+                pending.put(key, batch);
+                scheduleLinger(key, batch);
+            }
+            batch.add(raw.data, result);
+            if (batch.size() >= maxBatchSize) {
+                pending.remove(key);
+                batch.linger.cancel(false);
+                full = batch;
+            }
+        }
+        if (full != null) {
+            dispatch(full);
+        }
+        return result;
+    }
+
+    /**
+     * Blocking decode. Cheap to call from virtual threads, which is how concurrent callers
+     * end up sharing a batch.
+     */
+    public <T> GlobalId<T> decode(String encodedId) {
+        try {
+            return this.<T>decodeAsync(encodedId).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Dispatches every pending batch and stops accepting new requests.
+     */
+    @Override
+    public void close() {
+        List<Batch> remaining;
+        synchronized (pending) {
+            closed = true;
+            remaining = new ArrayList<>(pending.values());
+            pending.clear();
+        }
+        remaining.forEach(batch -> batch.linger.cancel(false));
+        remaining.forEach(this::dispatch);
+        scheduler.shutdownNow();
+        if (ownedExecutor != null) {
+            ownedExecutor.shutdown();
+        }
+    }
+
+    private void scheduleLinger(String key, Batch batch) {
+        batch.linger = scheduler.schedule(() -> {
+            synchronized (pending) {
+                // The batch may already have been dispatched for being full
+                if (pending.get(key) != batch) {
+                    return;
+                }
+                pending.remove(key);
+            }
+            dispatch(batch);
+        }, lingerNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void dispatch(Batch batch) {
+        try {
+            executor.execute(() -> {
+                // Every path must end in batch.complete, or callers blocked in decode() wait forever
+                try {
+                    IAsyncParser<Object> parser = parserRegistry.getAsyncParser(batch.prefix, batch.version);
+                    CompletableFuture<List<Object>> parsed = parser.parseAll(batch.values());
+                    if (parsed == null) {
+                        throw new IllegalStateException(
+                            "Async parser for prefix: " + batch.prefix + " and version: " + batch.version + " returned null"
+                        );
+                    }
+                    parsed.whenComplete(batch::complete);
+                } catch (Throwable e) {
+                    batch.complete(null, e);
+                    if (e instanceof Error) {
+                        throw (Error) e;
+                    }
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Executor shut down while this batch was being handed over
+            batch.complete(null, e);
+        }
+    }
+
+    /**
+     * Number of linger tasks still queued; full batches cancel theirs.
+     */
+    int queuedLingerTasks() {
+        return scheduler.getQueue().size();
+    }
+
+    private static ThreadFactory daemonThreads(String name) {
+        return runnable -> {
+            Thread thread = new Thread(runnable, name);
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    private static class Batch {
+        private final String prefix;
+        private final String type;
+        private final String version;
+        // Distinct values in arrival order, each with every caller waiting on it
+        private final Map<String, List<CompletableFuture<? extends GlobalId<?>>>> requests = new LinkedHashMap<>();
+        // Set under the pending lock right after the batch is created
+        private ScheduledFuture<?> linger;
+
+        Batch(String prefix, String type, String version) {
+            this.prefix = prefix;
+            this.type = type;
+            this.version = version;
+        }
+
+        <T> void add(String value, CompletableFuture<GlobalId<T>> result) {
+            requests.computeIfAbsent(value, k -> new ArrayList<>()).add(result);
+        }
+
+        /**
+         * Number of distinct values, i.e. what the parser will be asked to resolve.
+         */
+        int size() {
+            return requests.size();
+        }
+
+        List<String> values() {
+            return new ArrayList<>(requests.keySet());
+        }
+
+        @SuppressWarnings("unchecked")
+        void complete(List<Object> parsedValues, Throwable error) {
+            if (error == null && (parsedValues == null || parsedValues.size() != requests.size())) {
+                error = new IllegalStateException(
+                    "Async parser for prefix: " + prefix + " and version: " + version
+                        + " returned " + (parsedValues == null ? "null" : parsedValues.size() + " values")
+                        + " for " + requests.size() + " inputs"
+                );
+            }
+            if (error instanceof CompletionException && error.getCause() != null) {
+                error = error.getCause();
+            }
+            int i = 0;
+            for (List<CompletableFuture<? extends GlobalId<?>>> results : requests.values()) {
+                Object parsedValue = error == null ? parsedValues.get(i) : null;
+                for (CompletableFuture<? extends GlobalId<?>> result : results) {
+                    CompletableFuture<GlobalId<Object>> typed = (CompletableFuture<GlobalId<Object>>) result;
+                    if (error != null) {
+                        typed.completeExceptionally(error);
+                    } else {
+                        typed.complete(new GlobalId<>(type, version, parsedValue));
+                    }
+                }
+                i++;
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package dev.tsok.globalid;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Optional keyed checksums per prefix.
+ * When a prefix has a checksum, the Encoder appends it to the payload and the Decoder
+ * rejects IDs whose checksum does not match before doing any CBOR decoding.
+ */
+public class ChecksumRegistry {
+    private final Map<String, KeyedChecksum> registry = new HashMap<>();
+    private final TypeRegistry typeRegistry;
+
+    public ChecksumRegistry(TypeRegistry typeRegistry) {
+        this.typeRegistry = typeRegistry;
+    }
+
+    /**
+     * @param key    16-byte SipHash key
+     * @param length number of checksum bytes appended to the payload (1 to 8)
+     */
+    public void registerChecksum(String prefix, byte[] key, int length) {
+        // Ensure the prefix is known in TypeRegistry
+        if (typeRegistry.getType(prefix) == null) {
+            throw new IllegalArgumentException("Prefix '" + prefix + "' is not registered in TypeRegistry.");
+        }
+
+        registry.put(prefix, new KeyedChecksum(prefix, key, length));
+    }
+
+    KeyedChecksum getChecksum(String prefix) {
+        return registry.get(prefix);
+    }
+}
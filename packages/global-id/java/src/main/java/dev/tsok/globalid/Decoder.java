@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.fasterxml.jackson.core.type.TypeReference;
 
-import java.util.Base64;
 import java.util.List;
 
 public class Decoder {
@@ -12,34 +11,57 @@ public class Decoder {
 
     private final ParserRegistry parserRegistry;
     private final TypeRegistry typeRegistry;
+    private final ChecksumRegistry checksumRegistry;
 
     public Decoder(ParserRegistry parserRegistry, TypeRegistry typeRegistry) {
+        this(parserRegistry, typeRegistry, new ChecksumRegistry(typeRegistry));
+    }
+
+    public Decoder(ParserRegistry parserRegistry, TypeRegistry typeRegistry, ChecksumRegistry checksumRegistry) {
         this.parserRegistry = parserRegistry;
         this.typeRegistry = typeRegistry;
+        this.checksumRegistry = checksumRegistry;
     }
 
     public <T> GlobalId<T> decode(String encodedId) {
-        if (encodedId == null || encodedId.isEmpty()) {
-            throw new IllegalArgumentException("Encoded ID cannot be null or empty.");
-        }
+        return decode(EncodedGlobalId.parse(encodedId));
+    }
 
-        // Split on the first underscore
-        int underscoreIndex = encodedId.indexOf('_');
-        if (underscoreIndex < 1) {
-            // We expect at least one character for prefix, then '_', then payload
-            throw new IllegalArgumentException("Invalid encoded ID format (missing or misplaced underscore).");
-        }
+    /**
+     * Decodes an ID that is already split into prefix and raw CBOR payload, skipping Base64.
+     */
+    public <T> GlobalId<T> decode(EncodedGlobalId encodedId) {
+        RawGlobalId raw = decodeRaw(encodedId);
 
-        String prefix = encodedId.substring(0, underscoreIndex);
-        String base64Payload = encodedId.substring(underscoreIndex + 1);
+        // Look up the parser
+        IParser<T> parser = parserRegistry.getParser(raw.prefix, raw.version);
+        // Parse the data
+        T parsedValue = parser.parse(raw.data);
 
-        // Convert URL-safe base64 back to normal
-        byte[] cborBytes = fromUrlSafeBase64(base64Payload);
+        return new GlobalId<>(raw.type, raw.version, parsedValue);
+    }
+
+    /**
+     * Verifies and CBOR-decodes the payload, leaving the data unparsed.
+     */
+    RawGlobalId decodeRaw(EncodedGlobalId encodedId) {
+        String prefix = encodedId.getPrefix();
+        byte[] cborBytes = encodedId.getPayload();
+        int cborLength = cborBytes.length;
+
+        // Reject forged or mistyped IDs before any CBOR decoding
+        KeyedChecksum checksum = checksumRegistry.getChecksum(prefix);
+        if (checksum != null) {
+            if (!checksum.verify(cborBytes)) {
+                throw new IllegalArgumentException("Invalid checksum for encoded ID with prefix: " + prefix);
+            }
+            cborLength -= checksum.length();
+        }
 
         // CBOR decode => [ data, version ]
         List<Object> decodedList;
         try {
-            decodedList = CBOR_MAPPER.readValue(cborBytes, new TypeReference<List<Object>>(){});
+            decodedList = CBOR_MAPPER.readValue(cborBytes, 0, cborLength, new TypeReference<List<Object>>(){});
         } catch (Exception e) {
             throw new RuntimeException("Error while CBOR-decoding payload", e);
         }
@@ -51,11 +73,6 @@ public class Decoder {
         String data = (String) decodedList.get(0);
         String version = (String) decodedList.get(1);
 
-        // Look up the parser
-        IParser<T> parser = parserRegistry.getParser(prefix, version);
-        // Parse the data
-        T parsedValue = parser.parse(data);
-
         // Convert prefix back to type
         String type = typeRegistry.getType(prefix);
         if (type == null) {
@@ -64,16 +81,23 @@ public class Decoder {
             );
         }
 
-        return new GlobalId<>(type, version, parsedValue);
+        return new RawGlobalId(prefix, type, version, data);
     }
 
-    private byte[] fromUrlSafeBase64(String base64) {
-        // Restore + and /
-        String padded = base64.replace('-', '+').replace('_', '/');
-        // Pad with '=' up to multiple of 4
-        while (padded.length() % 4 != 0) {
-            padded += "=";
+    /**
+     * A decoded payload whose data has not gone through a parser yet.
+     */
+    static class RawGlobalId {
+        final String prefix;
+        final String type;
+        final String version;
+        final String data;
+
+        RawGlobalId(String prefix, String type, String version, String data) {
+            this.prefix = prefix;
+            this.type = type;
+            this.version = version;
+            this.data = data;
         }
-        return Base64.getDecoder().decode(padded);
     }
 }
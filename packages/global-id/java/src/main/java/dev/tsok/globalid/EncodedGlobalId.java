@@ -0,0 +1,105 @@
+package dev.tsok.globalid;
+
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * An encoded GlobalId kept as prefix + raw CBOR payload.
+ * The textual form "prefix_base64" is only built when {@link #toString()} is called.
+ */
+public final class EncodedGlobalId {
+    private final String prefix;
+    private final byte[] payload;
+    private String text; // built lazily
+
+    public EncodedGlobalId(String prefix, byte[] payload) {
+        if (prefix == null || prefix.isEmpty()) {
+            throw new IllegalArgumentException("Prefix cannot be null or empty.");
+        }
+        if (payload == null) {
+            throw new IllegalArgumentException("Payload cannot be null.");
+        }
+        this.prefix = prefix;
+        this.payload = payload;
+    }
+
+    /**
+     * Parses the textual form "prefix_base64".
+     */
+    public static EncodedGlobalId parse(String encodedId) {
+        if (encodedId == null || encodedId.isEmpty()) {
+            throw new IllegalArgumentException("Encoded ID cannot be null or empty.");
+        }
+
+        // Split on the first underscore
+        int underscoreIndex = encodedId.indexOf('_');
+        if (underscoreIndex < 1) {
+            // We expect at least one character for prefix, then '_', then payload
+            throw new IllegalArgumentException("Invalid encoded ID format (missing or misplaced underscore).");
+        }
+
+        String prefix = encodedId.substring(0, underscoreIndex);
+        String base64Payload = encodedId.substring(underscoreIndex + 1);
+
+        // Convert URL-safe base64 back to normal
+        EncodedGlobalId id = new EncodedGlobalId(prefix, fromUrlSafeBase64(base64Payload));
+        id.text = encodedId;
+        return id;
+    }
+
+    public String getPrefix() {
+        return prefix;
+    }
+
+    /**
+     * The CBOR payload. Not copied, so callers must not modify it.
+     */
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    @Override
+    public String toString() {
+        if (text == null) {
+            text = prefix + "_" + toUrlSafeBase64(payload);
+        }
+        return text;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof EncodedGlobalId)) {
+            return false;
+        }
+        EncodedGlobalId other = (EncodedGlobalId) o;
+        return prefix.equals(other.prefix) && Arrays.equals(payload, other.payload);
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * prefix.hashCode() + Arrays.hashCode(payload);
+    }
+
+    private static String toUrlSafeBase64(byte[] data) {
+        String base64 = Base64.getEncoder().encodeToString(data);
+        // Replace + and / with URL-safe chars - and _
+        // Remove trailing '='
+        return base64
+            .replace('+', '-')
+            .replace('/', '_')
+            .replaceAll("=+$", "");
+    }
+
+    private static byte[] fromUrlSafeBase64(String base64) {
+        // Restore + and /
+        String padded = base64.replace('-', '+').replace('_', '/');
+        // Pad with '=' up to multiple of 4
+        while (padded.length() % 4 != 0) {
+            padded += "=";
+        }
+        return Base64.getDecoder().decode(padded);
+    }
+}
@@ -4,7 +4,6 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 
 import java.util.Arrays;
-import java.util.Base64;
 import java.util.List;
 
 public class Encoder {
@@ -12,13 +11,26 @@ public class Encoder {
 
     private final ParserRegistry parserRegistry;
     private final TypeRegistry typeRegistry;
+    private final ChecksumRegistry checksumRegistry;
 
     public Encoder(ParserRegistry parserRegistry, TypeRegistry typeRegistry) {
+        this(parserRegistry, typeRegistry, new ChecksumRegistry(typeRegistry));
+    }
+
+    public Encoder(ParserRegistry parserRegistry, TypeRegistry typeRegistry, ChecksumRegistry checksumRegistry) {
         this.parserRegistry = parserRegistry;
         this.typeRegistry = typeRegistry;
+        this.checksumRegistry = checksumRegistry;
     }
 
     public <T> String encode(GlobalId<T> id) {
+        return encodeBinary(id).toString();
+    }
+
+    /**
+     * Encodes without the Base64 step, keeping the prefix and the raw CBOR payload.
+     */
+    public <T> EncodedGlobalId encodeBinary(GlobalId<T> id) {
         // Validate
         if (id.getValue() == null) {
             throw new IllegalArgumentException("Value is not defined (null).");
@@ -43,19 +55,14 @@ public class Encoder {
             throw new RuntimeException("Error while CBOR-encoding payload", e);
         }
 
-        // Convert to Base64 (URL-safe style)
-        String base64 = toUrlSafeBase64(cborBytes);
-
-        return prefix + "_" + base64;
-    }
+        // Append the keyed checksum if this prefix has one
+        KeyedChecksum checksum = checksumRegistry.getChecksum(prefix);
+        if (checksum != null) {
+            byte[] withChecksum = Arrays.copyOf(cborBytes, cborBytes.length + checksum.length());
+            checksum.write(withChecksum, cborBytes.length);
+            cborBytes = withChecksum;
+        }
 
-    private String toUrlSafeBase64(byte[] data) {
-        String base64 = Base64.getEncoder().encodeToString(data);
-        // Replace + and / with URL-safe chars - and _
-        // Remove trailing '='
-        return base64
-            .replace('+', '-')
-            .replace('/', '_')
-            .replaceAll("=+$", "");
+        return new EncodedGlobalId(prefix, cborBytes);
     }
 }
@@ -0,0 +1,47 @@
+package dev.tsok.globalid;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.serialization.Deserializer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads the format written by {@link GlobalIdSerializer}.
+ * No Base64 is involved; the textual ID is only built if {@link EncodedGlobalId#toString()} is called.
+ */
+public class GlobalIdDeserializer implements Deserializer<EncodedGlobalId> {
+
+    private PrefixTable prefixTable;
+
+    public GlobalIdDeserializer() {
+        // configured through configure()
+    }
+
+    public GlobalIdDeserializer(List<String> prefixes) {
+        this.prefixTable = new PrefixTable(prefixes);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        this.prefixTable = new PrefixTable(new GlobalIdSerdeConfig(configs).prefixes());
+    }
+
+    @Override
+    public EncodedGlobalId deserialize(String topic, byte[] data) {
+        if (prefixTable == null) {
+            throw new IllegalStateException(
+                "GlobalIdDeserializer is not configured: pass the prefixes to the constructor or call configure()."
+            );
+        }
+        if (data == null) {
+            return null;
+        }
+        if (data.length < 2) {
+            throw new SerializationException("GlobalId data is too short: " + data.length + " bytes");
+        }
+        String prefix = prefixTable.prefixAt(data[0] & 0xFF);
+        return new EncodedGlobalId(prefix, Arrays.copyOfRange(data, 1, data.length));
+    }
+}
@@ -0,0 +1,44 @@
+package dev.tsok.globalid;
+
+import org.apache.kafka.common.serialization.Deserializer;
+import org.apache.kafka.common.serialization.Serde;
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Serde for topics keyed (or valued) by GlobalIds, using the compact binary format.
+ * Producers and consumers must share the same {@code globalid.prefixes} list.
+ */
+public class GlobalIdSerde implements Serde<EncodedGlobalId> {
+
+    private final GlobalIdSerializer serializer;
+    private final GlobalIdDeserializer deserializer;
+
+    public GlobalIdSerde() {
+        this.serializer = new GlobalIdSerializer();
+        this.deserializer = new GlobalIdDeserializer();
+    }
+
+    public GlobalIdSerde(List<String> prefixes) {
+        this.serializer = new GlobalIdSerializer(prefixes);
+        this.deserializer = new GlobalIdDeserializer(prefixes);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        serializer.configure(configs, isKey);
+        deserializer.configure(configs, isKey);
+    }
+
+    @Override
+    public Serializer<EncodedGlobalId> serializer() {
+        return serializer;
+    }
+
+    @Override
+    public Deserializer<EncodedGlobalId> deserializer() {
+        return deserializer;
+    }
+}
@@ -0,0 +1,25 @@
+package dev.tsok.globalid;
+
+import org.apache.kafka.common.config.AbstractConfig;
+import org.apache.kafka.common.config.ConfigDef;
+
+import java.util.List;
+import java.util.Map;
+
+public class GlobalIdSerdeConfig extends AbstractConfig {
+
+    public static final String PREFIXES_CONFIG = "globalid.prefixes";
+    private static final String PREFIXES_DOC = "Ordered list of GlobalId prefixes (e.g. 'org,usr'). "
+            + "The position of a prefix is what goes on the wire, so new prefixes must only be appended.";
+
+    public static ConfigDef CONFIG_DEF = new ConfigDef()
+            .define(PREFIXES_CONFIG, ConfigDef.Type.LIST, ConfigDef.Importance.HIGH, PREFIXES_DOC);
+
+    public GlobalIdSerdeConfig(Map<String, ?> originals) {
+        super(CONFIG_DEF, originals);
+    }
+
+    public List<String> prefixes() {
+        return getList(PREFIXES_CONFIG);
+    }
+}
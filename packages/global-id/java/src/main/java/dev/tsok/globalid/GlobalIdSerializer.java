@@ -0,0 +1,46 @@
+package dev.tsok.globalid;
+
+import org.apache.kafka.common.serialization.Serializer;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes a GlobalId as [prefix index (1 byte)][CBOR payload] instead of the Base64 text form.
+ */
+public class GlobalIdSerializer implements Serializer<EncodedGlobalId> {
+
+    private PrefixTable prefixTable;
+
+    public GlobalIdSerializer() {
+        // configured through configure()
+    }
+
+    public GlobalIdSerializer(List<String> prefixes) {
+        this.prefixTable = new PrefixTable(prefixes);
+    }
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        this.prefixTable = new PrefixTable(new GlobalIdSerdeConfig(configs).prefixes());
+    }
+
+    @Override
+    public byte[] serialize(String topic, EncodedGlobalId data) {
+        if (prefixTable == null) {
+            throw new IllegalStateException(
+                "GlobalIdSerializer is not configured: pass the prefixes to the constructor or call configure()."
+            );
+        }
+        if (data == null) {
+            return null;
+        }
+        int index = prefixTable.indexOf(data.getPrefix());
+        byte[] payload = data.getPayload();
+
+        byte[] out = new byte[payload.length + 1];
+        out[0] = (byte) index;
+        System.arraycopy(payload, 0, out, 1, payload.length);
+        return out;
+    }
+}
@@ -0,0 +1,58 @@
+package dev.tsok.globalid;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Asynchronous variant of {@link IParser} for parsers that resolve values through an external
+ * lookup (e.g. a key-value store). Used by {@link BatchingDecoder} to resolve many IDs in one call.
+ */
+public interface IAsyncParser<T> {
+    /**
+     * Converts a batch of strings into objects of type T.
+     * The resulting list must have the same size and order as {@code values}.
+     */
+    CompletableFuture<List<T>> parseAll(List<String> values);
+
+    /**
+     * Converts a string into an object of type T.
+     */
+    default CompletableFuture<T> parse(String value) {
+        return parseAll(List.of(value)).thenApply(parsed -> parsed.get(0));
+    }
+
+    /**
+     * Converts an object of type T into a string.
+     */
+    CompletableFuture<String> format(T value);
+
+    /**
+     * Adapts a synchronous parser; every call completes immediately.
+     */
+    static <T> IAsyncParser<T> fromParser(IParser<T> parser) {
+        return new IAsyncParser<T>() {
+            @Override
+            public CompletableFuture<List<T>> parseAll(List<String> values) {
+                try {
+                    List<T> parsed = new ArrayList<>(values.size());
+                    for (String value : values) {
+                        parsed.add(parser.parse(value));
+                    }
+                    return CompletableFuture.completedFuture(parsed);
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+
+            @Override
+            public CompletableFuture<String> format(T value) {
+                try {
+                    return CompletableFuture.completedFuture(parser.format(value));
+                } catch (RuntimeException e) {
+                    return CompletableFuture.failedFuture(e);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,116 @@
+package dev.tsok.globalid;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * SipHash-2-4 over the CBOR payload, truncated to a few bytes and appended to it.
+ * Hashing and verification work directly on the payload array and allocate nothing.
+ *
+ * The hash key is derived from the configured key and the prefix, so a payload moved
+ * under another prefix fails verification even when both prefixes share a key.
+ */
+final class KeyedChecksum {
+    static final int KEY_LENGTH = 16;
+    static final int MAX_LENGTH = 8;
+
+    private final long k0;
+    private final long k1;
+    private final int length;
+
+    KeyedChecksum(String prefix, byte[] key, int length) {
+        if (key == null || key.length != KEY_LENGTH) {
+            throw new IllegalArgumentException("Checksum key must be exactly " + KEY_LENGTH + " bytes.");
+        }
+        if (length < 1 || length > MAX_LENGTH) {
+            throw new IllegalArgumentException("Checksum length must be between 1 and " + MAX_LENGTH + " bytes.");
+        }
+        // Derive the per-prefix key: SipHash(key, prefix || 0) and SipHash(key, prefix || 1)
+        long masterK0 = readLongLE(key, 0);
+        long masterK1 = readLongLE(key, 8);
+        byte[] prefixBytes = prefix.getBytes(StandardCharsets.UTF_8);
+        byte[] input = Arrays.copyOf(prefixBytes, prefixBytes.length + 1);
+        input[prefixBytes.length] = 0;
+        this.k0 = hash(masterK0, masterK1, input, 0, input.length);
+        input[prefixBytes.length] = 1;
+        this.k1 = hash(masterK0, masterK1, input, 0, input.length);
+        this.length = length;
+    }
+
+    int length() {
+        return length;
+    }
+
+    /**
+     * Writes the checksum of {@code data[0, dataLength)} into {@code data[dataLength, dataLength + length)}.
+     */
+    void write(byte[] data, int dataLength) {
+        long hash = hash(k0, k1, data, 0, dataLength);
+        for (int i = 0; i < length; i++) {
+            data[dataLength + i] = (byte) (hash >>> (8 * i));
+        }
+    }
+
+    /**
+     * Checks the trailing checksum of a payload produced by {@link #write}.
+     */
+    boolean verify(byte[] payload) {
+        int dataLength = payload.length - length;
+        if (dataLength < 1) {
+            return false;
+        }
+        long hash = hash(k0, k1, payload, 0, dataLength);
+        // Compare every byte so the time taken does not depend on where a mismatch is
+        int diff = 0;
+        for (int i = 0; i < length; i++) {
+            diff |= payload[dataLength + i] ^ (byte) (hash >>> (8 * i));
+        }
+        return diff == 0;
+    }
+
+    static long hash(long k0, long k1, byte[] data, int offset, int len) {
+        long v0 = 0x736f6d6570736575L ^ k0;
+        long v1 = 0x646f72616e646f6dL ^ k1;
+        long v2 = 0x6c7967656e657261L ^ k0;
+        long v3 = 0x7465646279746573L ^ k1;
+
+        int blocks = len >>> 3;
+        for (int i = 0; i <= blocks; i++) {
+            long m;
+            if (i < blocks) {
+                m = readLongLE(data, offset + 8 * i);
+            } else {
+                // Last block: remaining bytes plus the message length in the top byte
+                m = ((long) len) << 56;
+                for (int j = 0, start = offset + 8 * blocks; j < (len & 7); j++) {
+                    m |= (data[start + j] & 0xFFL) << (8 * j);
+                }
+            }
+            v3 ^= m;
+            for (int r = 0; r < 2; r++) {
+                v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+                v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+                v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+                v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+            }
+            v0 ^= m;
+        }
+
+        v2 ^= 0xff;
+        for (int r = 0; r < 4; r++) {
+            v0 += v1; v1 = Long.rotateLeft(v1, 13); v1 ^= v0; v0 = Long.rotateLeft(v0, 32);
+            v2 += v3; v3 = Long.rotateLeft(v3, 16); v3 ^= v2;
+            v0 += v3; v3 = Long.rotateLeft(v3, 21); v3 ^= v0;
+            v2 += v1; v1 = Long.rotateLeft(v1, 17); v1 ^= v2; v2 = Long.rotateLeft(v2, 32);
+        }
+        return v0 ^ v1 ^ v2 ^ v3;
+    }
+
+    private static long readLongLE(byte[] data, int offset) {
+        long value = 0;
+        for (int i = 7; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFFL);
+        }
+        return value;
+    }
+}
@@ -10,6 +10,7 @@ import java.util.Map;
 public class ParserRegistry {
     // Each prefix has a map of version -> parser
     private final Map<String, Map<String, IParser<?>>> registry = new HashMap<>();
+    private final Map<String, Map<String, IAsyncParser<?>>> asyncRegistry = new HashMap<>();
     private final TypeRegistry typeRegistry;
 
     public ParserRegistry(TypeRegistry typeRegistry) {
@@ -39,4 +40,25 @@ public class ParserRegistry {
         }
         return (IParser<T>) parser;
     }
+
+    public <T> void registerAsyncParser(String prefix, String version, IAsyncParser<T> parser) {
+        // Ensure the prefix is known in TypeRegistry
+        if (typeRegistry.getType(prefix) == null) {
+            throw new IllegalArgumentException("Prefix '" + prefix + "' is not registered in TypeRegistry.");
+        }
+
+        asyncRegistry.computeIfAbsent(prefix, k -> new HashMap<>()).put(version, parser);
+    }
+
+    /**
+     * Returns the async parser for prefix/version, falling back to the synchronous one.
+     */
+    @SuppressWarnings("unchecked")
+    public <T> IAsyncParser<T> getAsyncParser(String prefix, String version) {
+        Map<String, IAsyncParser<?>> versionMap = asyncRegistry.get(prefix);
+        if (versionMap != null && versionMap.containsKey(version)) {
+            return (IAsyncParser<T>) versionMap.get(version);
+        }
+        return IAsyncParser.fromParser(getParser(prefix, version));
+    }
 }
@@ -0,0 +1,47 @@
+package dev.tsok.globalid;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Maps GlobalId prefixes to the one-byte index written by {@link GlobalIdSerializer}.
+ */
+class PrefixTable {
+    static final int MAX_PREFIXES = 256;
+
+    private final String[] prefixes;
+    private final Map<String, Integer> indexes = new HashMap<>();
+
+    PrefixTable(List<String> prefixes) {
+        if (prefixes == null || prefixes.isEmpty()) {
+            throw new IllegalArgumentException("At least one prefix must be configured.");
+        }
+        if (prefixes.size() > MAX_PREFIXES) {
+            throw new IllegalArgumentException("At most " + MAX_PREFIXES + " prefixes are supported.");
+        }
+        this.prefixes = prefixes.toArray(new String[0]);
+        for (int i = 0; i < this.prefixes.length; i++) {
+            if (indexes.put(this.prefixes[i], i) != null) {
+                throw new IllegalArgumentException("Prefix is listed twice: " + this.prefixes[i]);
+            }
+        }
+    }
+
+    int indexOf(String prefix) {
+        Integer index = indexes.get(prefix);
+        if (index == null) {
+            throw new SerializationException("Prefix '" + prefix + "' is not in the configured prefix list.");
+        }
+        return index;
+    }
+
+    String prefixAt(int index) {
+        if (index >= prefixes.length) {
+            throw new SerializationException("Unknown prefix index: " + index);
+        }
+        return prefixes[index];
+    }
+}
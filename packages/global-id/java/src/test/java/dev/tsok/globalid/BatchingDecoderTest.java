@@ -0,0 +1,248 @@
+package dev.tsok.globalid;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchingDecoderTest {
+    private TypeRegistry typeRegistry;
+    private ParserRegistry parserRegistry;
+    private ChecksumRegistry checksumRegistry;
+    private Encoder encoder;
+    private InMemoryStore store;
+    private BatchingDecoder batchingDecoder;
+
+    @BeforeEach
+    void setUp() {
+        typeRegistry = new TypeRegistry();
+        typeRegistry.registerType("Organization", "org");
+        typeRegistry.registerType("User", "usr");
+        parserRegistry = new ParserRegistry(typeRegistry);
+        checksumRegistry = new ChecksumRegistry(typeRegistry);
+        encoder = new Encoder(parserRegistry, typeRegistry, checksumRegistry);
+
+        // "org" resolves through the store, "usr" only has a synchronous parser
+        store = new InMemoryStore(Duration.ofMillis(20));
+        parserRegistry.registerParser("org", "1.0.0", new StringParser());
+        parserRegistry.registerAsyncParser("org", "1.0.0", new StoreParser(store));
+        parserRegistry.registerParser("usr", "1.0.0", new StringParser());
+        for (int i = 0; i < 10; i++) {
+            store.put("ext-" + i, "int-" + i);
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (batchingDecoder != null) {
+            batchingDecoder.close();
+        }
+    }
+
+    private BatchingDecoder newDecoder(int maxBatchSize, Duration linger) {
+        batchingDecoder = new BatchingDecoder(parserRegistry, typeRegistry, checksumRegistry, maxBatchSize, linger);
+        return batchingDecoder;
+    }
+
+    private String encodeOrg(String externalKey) {
+        return encoder.encode(new GlobalId<>("Organization", "1.0.0", externalKey));
+    }
+
+    @Test
+    void testRequestsAreBatchedBySize() {
+        // A linger this long never fires during the test, so only the size threshold dispatches
+        newDecoder(4, Duration.ofMinutes(1));
+
+        List<CompletableFuture<GlobalId<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(batchingDecoder.decodeAsync(encodeOrg("ext-" + i)));
+        }
+
+        for (int i = 0; i < 8; i++) {
+            GlobalId<String> decoded = results.get(i).join();
+            assertEquals("Organization", decoded.getType());
+            assertEquals("int-" + i, decoded.getValue());
+        }
+        assertEquals(2, store.lookups.get());
+        // Both batches filled up, so neither linger task is left waiting in the scheduler
+        assertEquals(0, batchingDecoder.queuedLingerTasks());
+    }
+
+    @Test
+    void testLingerFlushesPartialBatch() {
+        newDecoder(100, Duration.ofMillis(10));
+
+        List<CompletableFuture<GlobalId<String>>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(batchingDecoder.decodeAsync(encodeOrg("ext-" + i)));
+        }
+
+        // Never reaches the size threshold, so completing at all means the linger dispatched it
+        for (int i = 0; i < 3; i++) {
+            assertEquals("int-" + i, results.get(i).join().getValue());
+        }
+    }
+
+    @Test
+    void testDuplicateValuesAreLookedUpOnce() {
+        newDecoder(4, Duration.ofMinutes(1));
+
+        List<CompletableFuture<GlobalId<String>>> hot = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            hot.add(batchingDecoder.decodeAsync(encodeOrg("ext-0")));
+        }
+        // Three more distinct values fill the batch of 4
+        List<CompletableFuture<GlobalId<String>>> others = new ArrayList<>();
+        for (int i = 1; i < 4; i++) {
+            others.add(batchingDecoder.decodeAsync(encodeOrg("ext-" + i)));
+        }
+
+        for (CompletableFuture<GlobalId<String>> result : hot) {
+            assertEquals("int-0", result.join().getValue());
+        }
+        for (int i = 0; i < 3; i++) {
+            assertEquals("int-" + (i + 1), others.get(i).join().getValue());
+        }
+        assertEquals(1, store.lookups.get());
+        assertEquals(4, store.keysRequested.get());
+    }
+
+    @Test
+    void testSyncParserFallback() {
+        newDecoder(4, Duration.ofMillis(10));
+        String encoded = encoder.encode(new GlobalId<>("User", "1.0.0", "some-user"));
+
+        GlobalId<String> decoded = batchingDecoder.decode(encoded);
+        assertEquals("User", decoded.getType());
+        assertEquals("some-user", decoded.getValue());
+        assertEquals(0, store.lookups.get());
+    }
+
+    @Test
+    void testLookupFailureFailsBatch() {
+        newDecoder(4, Duration.ofMillis(10));
+        String encoded = encoder.encode(new GlobalId<>("Organization", "1.0.0", "missing"));
+
+        CompletableFuture<GlobalId<String>> result = batchingDecoder.decodeAsync(encoded);
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalArgumentException.class, e.getCause());
+    }
+
+    @Test
+    void testNullParseResultFailsBatch() {
+        parserRegistry.registerAsyncParser("usr", "1.0.0", new BrokenParser(null));
+        newDecoder(4, Duration.ofMillis(10));
+        String encoded = encoder.encode(new GlobalId<>("User", "1.0.0", "u1"));
+
+        CompletableFuture<GlobalId<String>> result = batchingDecoder.decodeAsync(encoded);
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(IllegalStateException.class, e.getCause());
+    }
+
+    @Test
+    void testParserErrorFailsBatch() {
+        parserRegistry.registerAsyncParser("usr", "1.0.0", new BrokenParser(new AssertionError("broken")));
+        newDecoder(4, Duration.ofMillis(10));
+        String encoded = encoder.encode(new GlobalId<>("User", "1.0.0", "u1"));
+
+        CompletableFuture<GlobalId<String>> result = batchingDecoder.decodeAsync(encoded);
+        CompletionException e = assertThrows(CompletionException.class, result::join);
+        assertInstanceOf(AssertionError.class, e.getCause());
+    }
+
+    @Test
+    void testInvalidIdFailsWithoutLookup() {
+        newDecoder(4, Duration.ofMillis(10));
+        CompletableFuture<GlobalId<String>> result = batchingDecoder.decodeAsync("noUnderscore");
+        assertThrows(CompletionException.class, result::join);
+        assertEquals(0, store.lookups.get());
+    }
+
+    // Stand-in for a key-value store, with a fixed latency per round trip
+    static class InMemoryStore {
+        private final Map<String, String> data = new HashMap<>();
+        private final Duration latency;
+        final AtomicInteger lookups = new AtomicInteger();
+        final AtomicInteger keysRequested = new AtomicInteger();
+
+        InMemoryStore(Duration latency) {
+            this.latency = latency;
+        }
+
+        synchronized void put(String key, String value) {
+            data.put(key, value);
+        }
+
+        List<String> getAll(List<String> keys) {
+            lookups.incrementAndGet();
+            keysRequested.addAndGet(keys.size());
+            try {
+                Thread.sleep(latency.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            List<String> values = new ArrayList<>(keys.size());
+            synchronized (this) {
+                for (String key : keys) {
+                    String value = data.get(key);
+                    if (value == null) {
+                        throw new IllegalArgumentException("Unknown key: " + key);
+                    }
+                    values.add(value);
+                }
+            }
+            return values;
+        }
+    }
+
+    // Maps an external key to the internal surrogate stored for it
+    static class StoreParser implements IAsyncParser<String> {
+        private final InMemoryStore store;
+
+        StoreParser(InMemoryStore store) {
+            this.store = store;
+        }
+
+        @Override
+        public CompletableFuture<List<String>> parseAll(List<String> values) {
+            return CompletableFuture.supplyAsync(() -> store.getAll(values));
+        }
+
+        @Override
+        public CompletableFuture<String> format(String value) {
+            return CompletableFuture.completedFuture(value);
+        }
+    }
+
+    // Misbehaving parser: throws the given error, or returns null instead of a future when there is none
+    static class BrokenParser implements IAsyncParser<String> {
+        private final Error error;
+
+        BrokenParser(Error error) {
+            this.error = error;
+        }
+
+        @Override
+        public CompletableFuture<List<String>> parseAll(List<String> values) {
+            if (error != null) {
+                throw error;
+            }
+            return null;
+        }
+
+        @Override
+        public CompletableFuture<String> format(String value) {
+            return CompletableFuture.completedFuture(value);
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package dev.tsok.globalid;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalIdSerdeTest {
+
+    private Encoder encoder;
+    private Decoder decoder;
+    private GlobalIdSerde serde;
+
+    @BeforeEach
+    void setup() {
+        TypeRegistry typeRegistry = new TypeRegistry();
+        typeRegistry.registerType("Organization", "org");
+        typeRegistry.registerType("User", "usr");
+        ParserRegistry parserRegistry = new ParserRegistry(typeRegistry);
+        parserRegistry.registerParser("org", "1.0.0", new StringParser());
+        parserRegistry.registerParser("usr", "1.0.0", new StringParser());
+        encoder = new Encoder(parserRegistry, typeRegistry);
+        decoder = new Decoder(parserRegistry, typeRegistry);
+
+        serde = new GlobalIdSerde();
+        Map<String, String> props = new HashMap<>();
+        props.put(GlobalIdSerdeConfig.PREFIXES_CONFIG, "org,usr");
+        serde.configure(props, true);
+    }
+
+    @AfterEach
+    void teardown() {
+        serde.close();
+    }
+
+    @Test
+    void testRoundTrip() {
+        EncodedGlobalId id = encoder.encodeBinary(new GlobalId<>("User", "1.0.0", "some-user"));
+
+        byte[] bytes = serde.serializer().serialize("test-topic", id);
+        // One index byte plus the raw CBOR payload, no Base64
+        assertEquals(1, bytes[0]);
+        assertEquals(id.getPayload().length + 1, bytes.length);
+        assertTrue(bytes.length < id.toString().length());
+
+        EncodedGlobalId read = serde.deserializer().deserialize("test-topic", bytes);
+        assertEquals(id, read);
+        assertEquals(id.toString(), read.toString());
+
+        GlobalId<String> decoded = decoder.decode(read);
+        assertEquals("User", decoded.getType());
+        assertEquals("some-user", decoded.getValue());
+    }
+
+    @Test
+    void testFromTextualId() {
+        String text = encoder.encode(new GlobalId<>("Organization", "1.0.0", "some-org"));
+
+        byte[] bytes = serde.serializer().serialize("test-topic", EncodedGlobalId.parse(text));
+        assertEquals(0, bytes[0]);
+        assertEquals(text, serde.deserializer().deserialize("test-topic", bytes).toString());
+    }
+
+    @Test
+    void testNull() {
+        assertNull(serde.serializer().serialize("test-topic", null));
+        assertNull(serde.deserializer().deserialize("test-topic", null));
+    }
+
+    @Test
+    void testUnknownPrefix() {
+        GlobalIdSerde orgOnly = new GlobalIdSerde(List.of("org"));
+        EncodedGlobalId id = encoder.encodeBinary(new GlobalId<>("User", "1.0.0", "some-user"));
+
+        assertThrows(SerializationException.class, () -> orgOnly.serializer().serialize("test-topic", id));
+        assertThrows(SerializationException.class,
+                () -> orgOnly.deserializer().deserialize("test-topic", new byte[] {5, 1}));
+    }
+
+    @Test
+    void testNotConfigured() {
+        EncodedGlobalId id = encoder.encodeBinary(new GlobalId<>("User", "1.0.0", "some-user"));
+
+        assertThrows(IllegalStateException.class, () -> new GlobalIdSerializer().serialize("test-topic", id));
+        assertThrows(IllegalStateException.class,
+                () -> new GlobalIdDeserializer().deserialize("test-topic", new byte[] {0, 1}));
+    }
+}
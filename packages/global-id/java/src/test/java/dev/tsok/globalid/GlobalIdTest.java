@@ -46,6 +46,94 @@ class GlobalIdTest {
         assertEquals("123", data.getSystemId());
     }
 
+    @Test
+    void testEncodeBinary() {
+        GlobalId<OrganizationData> globalId =
+            new GlobalId<>("Organization", "1.0.0", new OrganizationData("uuid", "123"));
+
+        EncodedGlobalId binary = encoder.encodeBinary(globalId);
+        assertEquals("org", binary.getPrefix());
+        // Text form matches the regular encoder and parses back to the same bytes
+        assertEquals(encoder.encode(globalId), binary.toString());
+        assertEquals(binary, EncodedGlobalId.parse(binary.toString()));
+
+        GlobalId<OrganizationData> decoded = decoder.decode(binary);
+        assertEquals("Organization", decoded.getType());
+        assertEquals("uuid", decoded.getValue().getId());
+        assertEquals("123", decoded.getValue().getSystemId());
+    }
+
+    @Test
+    void testParseInvalidFormat() {
+        assertThrows(IllegalArgumentException.class, () -> EncodedGlobalId.parse(""));
+        assertThrows(IllegalArgumentException.class, () -> EncodedGlobalId.parse("_abc"));
+        assertThrows(IllegalArgumentException.class, () -> EncodedGlobalId.parse("noUnderscore"));
+    }
+
+    @Test
+    void testChecksum() {
+        ChecksumRegistry checksumRegistry = new ChecksumRegistry(typeRegistry);
+        checksumRegistry.registerChecksum("org", new byte[16], 4);
+        Encoder checkedEncoder = new Encoder(parserRegistry, typeRegistry, checksumRegistry);
+        Decoder checkedDecoder = new Decoder(parserRegistry, typeRegistry, checksumRegistry);
+
+        GlobalId<OrganizationData> globalId =
+            new GlobalId<>("Organization", "1.0.0", new OrganizationData("uuid", "123"));
+
+        EncodedGlobalId plain = encoder.encodeBinary(globalId);
+        EncodedGlobalId checked = checkedEncoder.encodeBinary(globalId);
+        assertEquals(plain.getPayload().length + 4, checked.getPayload().length);
+
+        GlobalId<OrganizationData> decoded = checkedDecoder.decode(checked.toString());
+        assertEquals("uuid", decoded.getValue().getId());
+
+        // An ID without checksum, or with a flipped payload bit, is rejected
+        assertThrows(IllegalArgumentException.class, () -> checkedDecoder.decode(plain));
+        byte[] tampered = checked.getPayload().clone();
+        tampered[1] ^= 1;
+        assertThrows(IllegalArgumentException.class,
+            () -> checkedDecoder.decode(new EncodedGlobalId("org", tampered)));
+    }
+
+    @Test
+    void testChecksumBoundToPrefix() {
+        typeRegistry.registerType("User", "usr");
+        parserRegistry.registerParser("usr", "1.0.0", new OrganizationLegacyIdentifierParserV1());
+
+        // Both prefixes share one key, as with a single connector-level secret
+        byte[] key = new byte[16];
+        ChecksumRegistry checksumRegistry = new ChecksumRegistry(typeRegistry);
+        checksumRegistry.registerChecksum("org", key, 4);
+        checksumRegistry.registerChecksum("usr", key, 4);
+        Encoder checkedEncoder = new Encoder(parserRegistry, typeRegistry, checksumRegistry);
+        Decoder checkedDecoder = new Decoder(parserRegistry, typeRegistry, checksumRegistry);
+
+        EncodedGlobalId orgId = checkedEncoder.encodeBinary(
+            new GlobalId<>("Organization", "1.0.0", new OrganizationData("uuid", "123")));
+        String reprefixed = "usr" + orgId.toString().substring("org".length());
+
+        assertThrows(IllegalArgumentException.class, () -> checkedDecoder.decode(reprefixed));
+    }
+
+    @Test
+    void testSipHashReferenceVector() {
+        // Reference vector from the SipHash paper: key 00..0f, message 00..0e
+        byte[] message = new byte[15];
+        for (int i = 0; i < message.length; i++) {
+            message[i] = (byte) i;
+        }
+        long hash = KeyedChecksum.hash(0x0706050403020100L, 0x0f0e0d0c0b0a0908L, message, 0, message.length);
+        assertEquals(0xa129ca6149be45e5L, hash);
+    }
+
+    @Test
+    void testInvalidChecksumConfig() {
+        ChecksumRegistry checksumRegistry = new ChecksumRegistry(typeRegistry);
+        assertThrows(IllegalArgumentException.class, () -> checksumRegistry.registerChecksum("org", new byte[8], 4));
+        assertThrows(IllegalArgumentException.class, () -> checksumRegistry.registerChecksum("org", new byte[16], 9));
+        assertThrows(IllegalArgumentException.class, () -> checksumRegistry.registerChecksum("usr", new byte[16], 4));
+    }
+
     // A sample data class
     static class OrganizationData {
         private String id;
@@ -0,0 +1,65 @@
+package dev.tsok.globalidsmt;
+
+import dev.tsok.globalid.*;
+
+/**
+ * Turns a raw field value into a GlobalId string for a single configured type/version.
+ * Holds the registries, parser and encoder built from a GlobalIdConfig.
+ * Immutable once built and shared across tasks through {@link GlobalIdCodecCache},
+ * so the configured parser must be stateless.
+ */
+class GlobalIdCodec {
+
+    private final String type;
+    private final String version;
+    private final Encoder encoder;
+
+    GlobalIdCodec(GlobalIdConfig config) {
+        this.type = config.globalIdType();
+        this.version = config.globalIdVersion();
+
+        // Create registries
+        TypeRegistry typeRegistry = new TypeRegistry();
+        // Register the prefix => type mapping
+        typeRegistry.registerType(config.globalIdType(), config.globalIdPrefix());
+
+        ParserRegistry parserRegistry = new ParserRegistry(typeRegistry);
+
+        // Create an instance of the parser
+        IParser<?> parser = instantiateParser(config.parserClass());
+        // Register parser
+        parserRegistry.registerParser(config.globalIdPrefix(), config.globalIdVersion(), parser);
+
+        // Register the optional keyed checksum
+        ChecksumRegistry checksumRegistry = new ChecksumRegistry(typeRegistry);
+        byte[] checksumKey = config.checksumKey();
+        if (checksumKey != null) {
+            checksumRegistry.registerChecksum(config.globalIdPrefix(), checksumKey, config.checksumLength());
+        }
+
+        // Create an encoder
+        this.encoder = new Encoder(parserRegistry, typeRegistry, checksumRegistry);
+    }
+
+    String encode(String rawValue) {
+        // Build the GlobalId object
+        GlobalId<String> globalId = new GlobalId<>(type, version, rawValue);
+        // Encode it as a string
+        return encoder.encode(globalId);
+    }
+
+    private static IParser<?> instantiateParser(String parserClassName) {
+        try {
+            Class<?> clazz = Class.forName(parserClassName);
+            Object instance = clazz.getDeclaredConstructor().newInstance();
+            if (!(instance instanceof IParser)) {
+                throw new IllegalArgumentException(
+                    "Provided parser.class does not implement IParser: " + parserClassName
+                );
+            }
+            return (IParser<?>) instance;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to instantiate parser class: " + parserClassName, e);
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package dev.tsok.globalidsmt;
+
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Worker-wide cache of codecs, shared by every transform with the same GlobalId settings.
+ *
+ * Connect creates one transform per task, so without this each task would build its own registries
+ * and parser instance. Entries are reference counted: {@link #acquire} on configure, {@link #release}
+ * on close, and the codec is dropped once the last user is closed.
+ *
+ * The lock only guards the maps and reference counts. A codec is built outside it by the first
+ * caller for its key; later callers with the same key wait on that build, other keys are not blocked.
+ */
+final class GlobalIdCodecCache {
+
+    private static final Object LOCK = new Object();
+    private static final Map<Key, Entry> CODECS = new HashMap<>();
+    // Which key each handed-out codec belongs to, for release()
+    private static final Map<GlobalIdCodec, Key> KEYS = new IdentityHashMap<>();
+
+    private GlobalIdCodecCache() {
+    }
+
+    static GlobalIdCodec acquire(GlobalIdConfig config) {
+        Key key = Key.of(config);
+        Entry entry;
+        boolean builder = false;
+        synchronized (LOCK) {
+            entry = CODECS.get(key);
+            if (entry == null) {
+                entry = new Entry();
+                CODECS.put(key, entry);
+                builder = true;
+            }
+            entry.references++;
+        }
+
+        if (builder) {
+            try {
+                GlobalIdCodec codec = new GlobalIdCodec(config);
+                synchronized (LOCK) {
+                    KEYS.put(codec, key);
+                }
+                entry.codec.complete(codec);
+            } catch (Throwable e) {
+                // Throwable, not RuntimeException: parser class loading can fail with an Error
+                // (e.g. NoClassDefFoundError). Drop the failed entry so a later configure can retry
+                // instead of waiting forever on a future nobody completes.
+                synchronized (LOCK) {
+                    CODECS.remove(key, entry);
+                }
+                entry.codec.completeExceptionally(e);
+                throw e;
+            }
+        }
+
+        try {
+            return entry.codec.join();
+        } catch (CompletionException e) {
+            // Same settings, same failure as the caller that tried to build it
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    static void release(GlobalIdCodec codec) {
+        if (codec == null) {
+            return;
+        }
+        synchronized (LOCK) {
+            Key key = KEYS.get(codec);
+            if (key == null) {
+                return;
+            }
+            Entry entry = CODECS.get(key);
+            if (--entry.references == 0) {
+                CODECS.remove(key);
+                KEYS.remove(codec);
+            }
+        }
+    }
+
+    static int size() {
+        synchronized (LOCK) {
+            return CODECS.size();
+        }
+    }
+
+    /**
+     * The settings a codec depends on, after defaults are applied.
+     * Field names are left out since they don't affect encoding.
+     */
+    private record Key(String type, String prefix, String version, String parserClass,
+                       String checksumKey, int checksumLength) {
+
+        static Key of(GlobalIdConfig config) {
+            byte[] checksumKey = config.checksumKey();
+            return new Key(
+                    config.globalIdType(),
+                    config.globalIdPrefix(),
+                    config.globalIdVersion(),
+                    config.parserClass(),
+                    checksumKey == null ? null : Base64.getEncoder().encodeToString(checksumKey),
+                    checksumKey == null ? 0 : config.checksumLength()
+            );
+        }
+    }
+
+    private static class Entry {
+        private final CompletableFuture<GlobalIdCodec> codec = new CompletableFuture<>();
+        private int references;
+    }
+}
@@ -2,7 +2,10 @@ package dev.tsok.globalidsmt;
 
 import org.apache.kafka.common.config.AbstractConfig;
 import org.apache.kafka.common.config.ConfigDef;
+import org.apache.kafka.common.config.ConfigException;
+import org.apache.kafka.common.config.types.Password;
 
+import java.util.Base64;
 import java.util.Map;
 
 public class GlobalIdConfig extends AbstractConfig {
@@ -23,7 +26,15 @@ public class GlobalIdConfig extends AbstractConfig {
     private static final String GLOBALID_VERSION_DOC = "Which parser version to use (e.g. '1.0.0').";
 
     public static final String PARSER_CLASS_CONFIG = "parser.class";
-    private static final String PARSER_CLASS_DOC = "Fully-qualified name of the IParser implementation to parse/format the data.";
+    private static final String PARSER_CLASS_DOC = "Fully-qualified name of the IParser implementation to parse/format the data. "
+            + "One instance is shared by all tasks on a worker with the same GlobalId settings and called from "
+            + "multiple threads, so it must be thread-safe (ideally stateless).";
+
+    public static final String CHECKSUM_KEY_CONFIG = "globalid.checksum.key";
+    private static final String CHECKSUM_KEY_DOC = "Base64-encoded 16-byte SipHash key. When set, a keyed checksum is appended to every GlobalId.";
+
+    public static final String CHECKSUM_LENGTH_CONFIG = "globalid.checksum.length";
+    private static final String CHECKSUM_LENGTH_DOC = "Number of checksum bytes appended when globalid.checksum.key is set.";
 
     public static ConfigDef CONFIG_DEF = new ConfigDef()
             .define(FIELD_NAME_CONFIG, ConfigDef.Type.STRING, ConfigDef.Importance.HIGH, FIELD_NAME_DOC)
@@ -31,7 +42,9 @@ public class GlobalIdConfig extends AbstractConfig {
             .define(GLOBALID_TYPE_CONFIG, ConfigDef.Type.STRING, ConfigDef.Importance.HIGH, GLOBALID_TYPE_DOC)
             .define(GLOBALID_PREFIX_CONFIG, ConfigDef.Type.STRING, ConfigDef.Importance.HIGH, GLOBALID_PREFIX_DOC)
             .define(GLOBALID_VERSION_CONFIG, ConfigDef.Type.STRING, ConfigDef.Importance.HIGH, GLOBALID_VERSION_DOC)
-            .define(PARSER_CLASS_CONFIG, ConfigDef.Type.STRING, ConfigDef.Importance.HIGH, PARSER_CLASS_DOC);
+            .define(PARSER_CLASS_CONFIG, ConfigDef.Type.STRING, ConfigDef.Importance.HIGH, PARSER_CLASS_DOC)
+            .define(CHECKSUM_KEY_CONFIG, ConfigDef.Type.PASSWORD, null, new ChecksumKeyValidator(), ConfigDef.Importance.MEDIUM, CHECKSUM_KEY_DOC)
+            .define(CHECKSUM_LENGTH_CONFIG, ConfigDef.Type.INT, 4, ConfigDef.Range.between(1, 8), ConfigDef.Importance.LOW, CHECKSUM_LENGTH_DOC);
 
     public GlobalIdConfig(Map<String, ?> originals) {
         super(CONFIG_DEF, originals);
@@ -60,4 +73,42 @@ public class GlobalIdConfig extends AbstractConfig {
     public String parserClass() {
         return getString(PARSER_CLASS_CONFIG);
     }
+
+    /**
+     * Returns the decoded key; already validated by {@link ChecksumKeyValidator}.
+     */
+    public byte[] checksumKey() {
+        Password key = getPassword(CHECKSUM_KEY_CONFIG);
+        return key == null ? null : Base64.getDecoder().decode(key.value());
+    }
+
+    public int checksumLength() {
+        return getInt(CHECKSUM_LENGTH_CONFIG);
+    }
+
+    private static class ChecksumKeyValidator implements ConfigDef.Validator {
+        private static final int KEY_LENGTH = 16;
+
+        @Override
+        public void ensureValid(String name, Object value) {
+            if (value == null) {
+                return;
+            }
+            byte[] key;
+            try {
+                key = Base64.getDecoder().decode(((Password) value).value());
+            } catch (IllegalArgumentException e) {
+                // Don't echo the secret back in the error
+                throw new ConfigException(name, value, "Must be Base64-encoded.");
+            }
+            if (key.length != KEY_LENGTH) {
+                throw new ConfigException(name, value, "Must decode to exactly " + KEY_LENGTH + " bytes, got " + key.length + ".");
+            }
+        }
+
+        @Override
+        public String toString() {
+            return "Base64-encoded " + KEY_LENGTH + "-byte key";
+        }
+    }
 }
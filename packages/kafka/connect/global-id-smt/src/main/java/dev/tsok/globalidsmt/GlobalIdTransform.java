@@ -1,39 +1,25 @@
 package dev.tsok.globalidsmt;
 
-import dev.tsok.globalid.*;
 import org.apache.kafka.connect.connector.ConnectRecord;
 import org.apache.kafka.connect.data.*;
 import org.apache.kafka.connect.errors.DataException;
 import org.apache.kafka.connect.transforms.Transformation;
 import org.apache.kafka.common.config.ConfigDef;
-import java.util.HashMap;
 import java.util.Map;
 
 public class GlobalIdTransform<R extends ConnectRecord<R>> implements Transformation<R> {
 
     private GlobalIdConfig config;
-    private TypeRegistry typeRegistry;
-    private ParserRegistry parserRegistry;
-    private Encoder encoder; // to convert to a GlobalId string
+    private GlobalIdCodec codec; // to convert to a GlobalId string
 
     @Override
     public void configure(Map<String, ?> configs) {
-        this.config = new GlobalIdConfig(configs);
-
-        // Create registries
-        this.typeRegistry = new TypeRegistry();
-        // Register the prefix => type mapping
-        typeRegistry.registerType(config.globalIdType(), config.globalIdPrefix());
-
-        this.parserRegistry = new ParserRegistry(typeRegistry);
-
-        // Create an instance of the parser
-        IParser<?> parser = instantiateParser(config.parserClass());
-        // Register parser
-        parserRegistry.registerParser(config.globalIdPrefix(), config.globalIdVersion(), parser);
-
-        // Create an encoder
-        this.encoder = new Encoder(parserRegistry, typeRegistry);
+        GlobalIdConfig newConfig = new GlobalIdConfig(configs);
+        GlobalIdCodec newCodec = GlobalIdCodecCache.acquire(newConfig);
+        // Release the previous codec if configured more than once
+        GlobalIdCodecCache.release(codec);
+        this.config = newConfig;
+        this.codec = newCodec;
     }
 
     @Override
@@ -124,39 +110,17 @@ public class GlobalIdTransform<R extends ConnectRecord<R>> implements Transforma
     }
 
     private String createGlobalIdString(String rawValue) {
-        // Build the GlobalId object
-        GlobalId<String> globalId = new GlobalId<>(
-                config.globalIdType(),
-                config.globalIdVersion(),
-                rawValue
-        );
-        // Encode it as a string
-        return encoder.encode(globalId);
+        return codec.encode(rawValue);
     }
 
     @Override
     public void close() {
-        // Cleanup if necessary
+        GlobalIdCodecCache.release(codec);
+        codec = null;
     }
 
     @Override
     public ConfigDef config() {
         return GlobalIdConfig.CONFIG_DEF;
     }
-
-    @SuppressWarnings("unchecked")
-    private IParser<?> instantiateParser(String parserClassName) {
-        try {
-            Class<?> clazz = Class.forName(parserClassName);
-            Object instance = clazz.getDeclaredConstructor().newInstance();
-            if (!(instance instanceof IParser)) {
-                throw new IllegalArgumentException(
-                    "Provided parser.class does not implement IParser: " + parserClassName
-                );
-            }
-            return (IParser<?>) instance;
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to instantiate parser class: " + parserClassName, e);
-        }
-    }
 }
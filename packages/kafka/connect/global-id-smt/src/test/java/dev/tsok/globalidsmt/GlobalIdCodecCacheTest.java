@@ -0,0 +1,127 @@
+package dev.tsok.globalidsmt;
+
+import dev.tsok.globalid.StringParser;
+import org.apache.kafka.connect.source.SourceRecord;
+import org.junit.jupiter.api.*;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class GlobalIdCodecCacheTest {
+
+    private Map<String, String> props(String fieldName, String version) {
+        Map<String, String> props = new HashMap<>();
+        props.put(GlobalIdConfig.FIELD_NAME_CONFIG, fieldName);
+        props.put(GlobalIdConfig.FIELD_OUT_CONFIG, "global_id");
+        props.put(GlobalIdConfig.GLOBALID_TYPE_CONFIG, "Organization");
+        props.put(GlobalIdConfig.GLOBALID_PREFIX_CONFIG, "org");
+        props.put(GlobalIdConfig.GLOBALID_VERSION_CONFIG, version);
+        props.put(GlobalIdConfig.PARSER_CLASS_CONFIG, StringParser.class.getName());
+        return props;
+    }
+
+    @Test
+    void testIdenticalConfigsShareCodec() {
+        int sizeBefore = GlobalIdCodecCache.size();
+
+        // Field names don't affect encoding, so they share a codec too
+        GlobalIdCodec first = GlobalIdCodecCache.acquire(new GlobalIdConfig(props("raw_field", "1.0.0")));
+        GlobalIdCodec second = GlobalIdCodecCache.acquire(new GlobalIdConfig(props("other_field", "1.0.0")));
+        GlobalIdCodec otherVersion = GlobalIdCodecCache.acquire(new GlobalIdConfig(props("raw_field", "2.0.0")));
+
+        assertSame(first, second);
+        assertNotSame(first, otherVersion);
+        assertEquals(sizeBefore + 2, GlobalIdCodecCache.size());
+
+        GlobalIdCodecCache.release(otherVersion);
+        GlobalIdCodecCache.release(first);
+        // Still referenced by the second user
+        assertEquals(sizeBefore + 1, GlobalIdCodecCache.size());
+        GlobalIdCodecCache.release(second);
+        assertEquals(sizeBefore, GlobalIdCodecCache.size());
+
+        // A later acquire builds a fresh codec
+        GlobalIdCodec rebuilt = GlobalIdCodecCache.acquire(new GlobalIdConfig(props("raw_field", "1.0.0")));
+        assertNotSame(first, rebuilt);
+        GlobalIdCodecCache.release(rebuilt);
+    }
+
+    @Test
+    void testTransformsReleaseOnClose() {
+        int sizeBefore = GlobalIdCodecCache.size();
+
+        GlobalIdTransform<SourceRecord> first = new GlobalIdTransform<>();
+        GlobalIdTransform<SourceRecord> second = new GlobalIdTransform<>();
+        first.configure(props("raw_field", "3.0.0"));
+        second.configure(props("raw_field", "3.0.0"));
+        assertEquals(sizeBefore + 1, GlobalIdCodecCache.size());
+
+        first.close();
+        second.close();
+        // Closing twice must not release someone else's reference
+        second.close();
+        assertEquals(sizeBefore, GlobalIdCodecCache.size());
+    }
+
+    @Test
+    void testSlowParserDoesNotBlockOtherConfigs() throws Exception {
+        Map<String, String> slowProps = props("raw_field", "4.0.0");
+        slowProps.put(GlobalIdConfig.PARSER_CLASS_CONFIG, BlockingParser.class.getName());
+
+        BlockingParser.constructing = new CountDownLatch(1);
+        BlockingParser.proceed = new CountDownLatch(1);
+        CompletableFuture<GlobalIdCodec> slow =
+                CompletableFuture.supplyAsync(() -> GlobalIdCodecCache.acquire(new GlobalIdConfig(slowProps)));
+        try {
+            assertTrue(BlockingParser.constructing.await(10, TimeUnit.SECONDS));
+
+            // Another config builds while the slow parser is still in its constructor
+            GlobalIdCodec other = GlobalIdCodecCache.acquire(new GlobalIdConfig(props("raw_field", "5.0.0")));
+            assertFalse(slow.isDone());
+            GlobalIdCodecCache.release(other);
+        } finally {
+            BlockingParser.proceed.countDown();
+        }
+        GlobalIdCodecCache.release(slow.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void testFailingParserInitDoesNotLeaveEntryBehind() {
+        int sizeBefore = GlobalIdCodecCache.size();
+        Map<String, String> props = props("raw_field", "6.0.0");
+        props.put(GlobalIdConfig.PARSER_CLASS_CONFIG, FailingInitParser.class.getName());
+
+        assertTimeoutPreemptively(Duration.ofSeconds(10), () -> {
+            // First attempt: ExceptionInInitializerError, later ones: NoClassDefFoundError
+            assertThrows(Error.class, () -> GlobalIdCodecCache.acquire(new GlobalIdConfig(props)));
+            assertThrows(Error.class, () -> GlobalIdCodecCache.acquire(new GlobalIdConfig(props)));
+        });
+        assertEquals(sizeBefore, GlobalIdCodecCache.size());
+    }
+
+    // Parser whose class fails to initialize, like one missing from a plugin classloader
+    public static class FailingInitParser extends StringParser {
+        static {
+            if (true) {
+                throw new IllegalStateException("static init failed");
+            }
+        }
+    }
+
+    // Parser whose constructor waits, like one opening a connection to a lookup store
+    public static class BlockingParser extends StringParser {
+        static volatile CountDownLatch constructing;
+        static volatile CountDownLatch proceed;
+
+        public BlockingParser() throws InterruptedException {
+            constructing.countDown();
+            proceed.await(10, TimeUnit.SECONDS);
+        }
+    }
+}
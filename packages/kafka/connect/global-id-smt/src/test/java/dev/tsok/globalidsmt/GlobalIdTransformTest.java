@@ -1,11 +1,12 @@
 package dev.tsok.globalidsmt;
 
-import dev.tsok.globalid.GlobalId;
-import dev.tsok.globalid.StringParser;
+import dev.tsok.globalid.*;
+import org.apache.kafka.common.config.ConfigException;
 import org.apache.kafka.connect.data.*;
 import org.apache.kafka.connect.source.SourceRecord;
 import org.junit.jupiter.api.*;
 
+import java.util.Base64;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -164,6 +165,61 @@ class GlobalIdTransformTest {
         assertNull(transformedRecord.valueSchema());
     }
 
+    @Test
+    void testChecksum() {
+        byte[] key = new byte[16];
+        Map<String, String> props = new HashMap<>();
+        props.put(GlobalIdConfig.FIELD_NAME_CONFIG, "raw_field");
+        props.put(GlobalIdConfig.FIELD_OUT_CONFIG, "global_id");
+        props.put(GlobalIdConfig.GLOBALID_TYPE_CONFIG, "Organization");
+        props.put(GlobalIdConfig.GLOBALID_PREFIX_CONFIG, "org");
+        props.put(GlobalIdConfig.GLOBALID_VERSION_CONFIG, "1.0.0");
+        props.put(GlobalIdConfig.PARSER_CLASS_CONFIG, StringParser.class.getName());
+        props.put(GlobalIdConfig.CHECKSUM_KEY_CONFIG, Base64.getEncoder().encodeToString(key));
+
+        transform.configure(props);
+
+        Map<String, Object> valueMap = new HashMap<>();
+        valueMap.put("raw_field", "some-string-value");
+        SourceRecord record = new SourceRecord(null, null, "test-topic", null, null, null, valueMap);
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> transformedMap = (Map<String, Object>) transform.apply(record).value();
+        String globalIdString = (String) transformedMap.get("global_id");
+
+        // Only a decoder sharing the key accepts the ID
+        TypeRegistry typeRegistry = new TypeRegistry();
+        typeRegistry.registerType("Organization", "org");
+        ParserRegistry parserRegistry = new ParserRegistry(typeRegistry);
+        parserRegistry.registerParser("org", "1.0.0", new StringParser());
+        ChecksumRegistry checksumRegistry = new ChecksumRegistry(typeRegistry);
+        checksumRegistry.registerChecksum("org", key, 4);
+
+        GlobalId<String> decoded = new Decoder(parserRegistry, typeRegistry, checksumRegistry).decode(globalIdString);
+        assertEquals("some-string-value", decoded.getValue());
+    }
+
+    @Test
+    void testInvalidChecksumKey() {
+        Map<String, String> props = new HashMap<>();
+        props.put(GlobalIdConfig.FIELD_NAME_CONFIG, "raw_field");
+        props.put(GlobalIdConfig.FIELD_OUT_CONFIG, "global_id");
+        props.put(GlobalIdConfig.GLOBALID_TYPE_CONFIG, "Organization");
+        props.put(GlobalIdConfig.GLOBALID_PREFIX_CONFIG, "org");
+        props.put(GlobalIdConfig.GLOBALID_VERSION_CONFIG, "1.0.0");
+        props.put(GlobalIdConfig.PARSER_CLASS_CONFIG, StringParser.class.getName());
+
+        // Not Base64
+        props.put(GlobalIdConfig.CHECKSUM_KEY_CONFIG, "not base64!");
+        ConfigException notBase64 = assertThrows(ConfigException.class, () -> transform.configure(props));
+        assertTrue(notBase64.getMessage().contains(GlobalIdConfig.CHECKSUM_KEY_CONFIG));
+
+        // Valid Base64 but only 8 bytes
+        props.put(GlobalIdConfig.CHECKSUM_KEY_CONFIG, Base64.getEncoder().encodeToString(new byte[8]));
+        ConfigException tooShort = assertThrows(ConfigException.class, () -> transform.configure(props));
+        assertTrue(tooShort.getMessage().contains(GlobalIdConfig.CHECKSUM_KEY_CONFIG));
+    }
+
     @Test
     void testInvalidParserClass() {
         // Provide a parser class that doesn't exist or doesn't implement IParser